@@ -0,0 +1,170 @@
+package com.rodneybeede.software.backupmygoogledrive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Caps the combined bytes per second written by all download streams it wraps.
+ *
+ * <p>
+ * The limit comes from a {@link BandwidthSchedule} so it can change by time of day.  The current limit is split
+ * evenly across all open streams so one huge file cannot starve the small ones, and when a stream closes the
+ * others pick up its share on their next write.
+ * </p>
+ *
+ * <p>
+ * The schedule may be replaced at any time with {@link #setSchedule(BandwidthSchedule)}.  If created with
+ * {@link #fromFile(Path)} the file is also re-read whenever its last modified time changes so limits can be
+ * adjusted during a run without restarting.
+ * </p>
+ *
+ * <p>
+ * Thread safe.
+ * </p>
+ */
+public class BandwidthGovernor {
+	private static final Logger log = Logger.getLogger(BandwidthGovernor.class);
+
+	// How often (at most) to look at the schedule file for changes
+	private static final long RELOAD_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+	private volatile BandwidthSchedule schedule;
+
+	private final AtomicInteger openStreams = new AtomicInteger();
+
+	private final Path scheduleFile;  // May be null if schedule was given directly
+	private final AtomicLong nextReloadCheckNanos;  // Whichever thread advances this does the check
+	private volatile FileTime scheduleFileLastModified;  // Only written by the thread doing the check
+	private volatile String lastReloadError;  // null if the last check succeeded
+
+
+	public BandwidthGovernor(final BandwidthSchedule schedule) {
+		this(schedule, null, null);
+	}
+
+
+	private BandwidthGovernor(final BandwidthSchedule schedule, final Path scheduleFile, final FileTime scheduleFileLastModified) {
+		if(null == schedule)  throw new NullPointerException("schedule");
+
+		this.schedule = schedule;
+		this.scheduleFile = scheduleFile;
+		this.scheduleFileLastModified = scheduleFileLastModified;
+		this.nextReloadCheckNanos = new AtomicLong(System.nanoTime() + RELOAD_CHECK_INTERVAL_NANOS);
+	}
+
+
+	/**
+	 * @param scheduleFile UTF-8 text file containing a {@link BandwidthSchedule} (entries may be on separate lines)
+	 * @return Governor that re-reads scheduleFile whenever it is modified
+	 * @throws IOException If scheduleFile cannot be read
+	 * @throws IllegalArgumentException If the contents of scheduleFile are not a valid schedule
+	 */
+	public static BandwidthGovernor fromFile(final Path scheduleFile) throws IOException {
+		final FileTime lastModified = Files.getLastModifiedTime(scheduleFile);
+
+		return new BandwidthGovernor(readScheduleFile(scheduleFile), scheduleFile, lastModified);
+	}
+
+
+	private static BandwidthSchedule readScheduleFile(final Path scheduleFile) throws IOException {
+		// Treat each line as its own entry
+		final String text = String.join(",", Files.readAllLines(scheduleFile, StandardCharsets.UTF_8));
+
+		return BandwidthSchedule.parse(text);
+	}
+
+
+	public BandwidthSchedule getSchedule() {
+		return this.schedule;
+	}
+
+
+	/**
+	 * Takes effect for all open streams on their next write.
+	 *
+	 * @param schedule New schedule
+	 */
+	public void setSchedule(final BandwidthSchedule schedule) {
+		if(null == schedule)  throw new NullPointerException("schedule");
+
+		this.schedule = schedule;
+
+		log.info("Bandwidth schedule is now:  " + schedule);
+	}
+
+
+	/**
+	 * The returned stream counts as open (and so takes a share of the bandwidth) until it is closed.
+	 *
+	 * @param ostream Destination to write downloaded content to
+	 * @return Stream that writes to ostream no faster than this governor allows
+	 */
+	public OutputStream wrap(final OutputStream ostream) {
+		return new ThrottledOutputStream(this, ostream);
+	}
+
+
+	void streamOpened() {
+		this.openStreams.incrementAndGet();
+	}
+
+
+	void streamClosed() {
+		this.openStreams.decrementAndGet();
+	}
+
+
+	/**
+	 * @return Bytes per second a single open stream may currently use or {@link BandwidthSchedule#UNLIMITED}
+	 */
+	long getPerStreamBytesPerSecond() {
+		reloadScheduleFileIfChanged();
+
+		final long limit = this.schedule.getBytesPerSecond(LocalTime.now());
+		if(BandwidthSchedule.UNLIMITED == limit)  return limit;
+
+		return Math.max(1L, limit / Math.max(1, this.openStreams.get()));
+	}
+
+
+	private void reloadScheduleFileIfChanged() {
+		if(null == this.scheduleFile)  return;
+
+		final long now = System.nanoTime();
+		final long nextCheck = this.nextReloadCheckNanos.get();
+		if(now - nextCheck < 0)  return;  // Not time to check yet
+		// Other writers skip the check (instead of waiting on it) if another thread already claimed it
+		if(!this.nextReloadCheckNanos.compareAndSet(nextCheck, now + RELOAD_CHECK_INTERVAL_NANOS))  return;
+
+		try {
+			final FileTime lastModified = Files.getLastModifiedTime(this.scheduleFile);
+			if(lastModified.equals(this.scheduleFileLastModified)) {
+				this.lastReloadError = null;  // File is readable again (a bad edit is not re-read until it changes)
+				return;
+			}
+
+			this.scheduleFileLastModified = lastModified;
+
+			setSchedule(readScheduleFile(this.scheduleFile));
+			this.lastReloadError = null;
+		} catch (final IOException | IllegalArgumentException e) {
+			// Keep running with the old limits rather than failing the backup
+			// Only log each distinct problem once since this is checked every few seconds for the whole run
+			final String error = e.toString();
+			if(!error.equals(this.lastReloadError)) {
+				this.lastReloadError = error;
+				log.warn("Unable to reload bandwidth schedule from " + this.scheduleFile + " so keeping current schedule of " + this.schedule, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.rodneybeede.software.backupmygoogledrive;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable time-of-day schedule of bandwidth limits.
+ *
+ * <p>
+ * Format is a comma separated list of entries of the form  <code>RATE[@HH:mm-HH:mm]</code>  where RATE is a number
+ * of MB/s (1 MB = 1048576 bytes, decimals allowed, optional "MB/s" suffix) or the word "unlimited".  The first entry
+ * whose time window contains the current local time wins.  An entry without a window always matches so it is
+ * normally given last as the default.  A window may wrap past midnight (e.g. 22:00-06:00).  If nothing matches the
+ * bandwidth is unlimited.
+ * </p>
+ *
+ * <p>
+ * Example:  <code>10@08:00-18:00,unlimited</code>
+ * </p>
+ */
+public final class BandwidthSchedule {
+	public static final long UNLIMITED = Long.MAX_VALUE;
+
+	private static final long BYTES_PER_MB = 1024L * 1024L;
+
+	private final List<Entry> entries;
+	private final String text;  // As originally given, for logging
+
+
+	private BandwidthSchedule(final List<Entry> entries, final String text) {
+		this.entries = entries;
+		this.text = text;
+	}
+
+
+	/**
+	 * @param schedule Text in the format described by the class documentation
+	 * @return Parsed schedule
+	 * @throws IllegalArgumentException If schedule is empty or any entry is not valid
+	 */
+	public static BandwidthSchedule parse(final String schedule) {
+		if(null == schedule || schedule.trim().isEmpty()) {
+			throw new IllegalArgumentException("Bandwidth schedule is empty");
+		}
+
+		final List<Entry> entries = new ArrayList<>();
+
+		for(final String rawEntry : schedule.split(",")) {
+			final String entry = rawEntry.trim();
+			if(entry.isEmpty())  continue;  // Allows trailing commas and blank lines in a schedule file
+
+			final int at = entry.indexOf('@');
+			final String rate = (at < 0) ? entry : entry.substring(0, at).trim();
+
+			final long bytesPerSecond = parseRate(rate, entry);
+
+			if(at < 0) {
+				entries.add(new Entry(bytesPerSecond, null, null));
+			} else {
+				// Accept an en dash as well since that is how people tend to write time ranges
+				final String[] window = entry.substring(at + 1).replace('\u2013', '-').split("-");
+				if(2 != window.length) {
+					throw new IllegalArgumentException("Time window must be HH:mm-HH:mm in bandwidth schedule entry:  " + entry);
+				}
+
+				try {
+					entries.add(new Entry(bytesPerSecond, LocalTime.parse(window[0].trim()), LocalTime.parse(window[1].trim())));
+				} catch (final DateTimeParseException e) {
+					throw new IllegalArgumentException("Time window must be HH:mm-HH:mm in bandwidth schedule entry:  " + entry, e);
+				}
+			}
+		}
+
+		if(entries.isEmpty()) {
+			throw new IllegalArgumentException("Bandwidth schedule has no entries");
+		}
+
+		return new BandwidthSchedule(Collections.unmodifiableList(entries), schedule.trim());
+	}
+
+
+	private static long parseRate(final String rate, final String entry) {
+		String value = rate.toLowerCase(Locale.ROOT);
+
+		if("unlimited".equals(value)) {
+			return UNLIMITED;
+		}
+
+		if(value.endsWith("mb/s")) {
+			value = value.substring(0, value.length() - "mb/s".length()).trim();
+		}
+
+		final double megabytesPerSecond;
+		try {
+			megabytesPerSecond = Double.parseDouble(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid rate in bandwidth schedule entry:  " + entry, e);
+		}
+
+		if(!(megabytesPerSecond > 0) || Double.isInfinite(megabytesPerSecond)) {
+			throw new IllegalArgumentException("Rate must be a positive number of MB/s or unlimited in bandwidth schedule entry:  " + entry);
+		}
+
+		return Math.max(1L, (long) (megabytesPerSecond * BYTES_PER_MB));
+	}
+
+
+	/**
+	 * @param time Local time of day to evaluate
+	 * @return Bytes per second allowed at time or {@link #UNLIMITED}
+	 */
+	public long getBytesPerSecond(final LocalTime time) {
+		for(final Entry entry : this.entries) {
+			if(entry.contains(time)) {
+				return entry.bytesPerSecond;
+			}
+		}
+
+		return UNLIMITED;
+	}
+
+
+	@Override
+	public String toString() {
+		return this.text;
+	}
+
+
+	private static final class Entry {
+		private final long bytesPerSecond;
+		private final LocalTime start;  // null means all day
+		private final LocalTime end;    // exclusive
+
+		private Entry(final long bytesPerSecond, final LocalTime start, final LocalTime end) {
+			this.bytesPerSecond = bytesPerSecond;
+			this.start = start;
+			this.end = end;
+		}
+
+		private boolean contains(final LocalTime time) {
+			if(null == this.start)  return true;
+
+			if(this.start.isBefore(this.end)) {
+				return !time.isBefore(this.start) && time.isBefore(this.end);
+			} else {
+				// Wraps past midnight (or start == end which we treat as all day)
+				return !time.isBefore(this.start) || time.isBefore(this.end);
+			}
+		}
+	}
+}
@@ -17,11 +17,13 @@ import java.util.Map;
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
 import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
+import com.google.api.client.googleapis.GoogleUtils;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow.Builder;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.ApacheHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.client.util.store.FileDataStoreFactory;
@@ -31,6 +33,11 @@ import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
 import com.google.common.base.Strings;
 
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+
 public class GoogleDriveFacade {
 	private final FileDataStoreFactory DATA_STORE_FACTORY;
 	private static final Collection<String> AUTH_SCOPES = (Collection<String>) Collections.unmodifiableCollection(
@@ -43,9 +50,23 @@ public class GoogleDriveFacade {
 	
 	private Drive cachedGoogleDrive;  // getDriveService()
 	
+	private volatile BandwidthGovernor bandwidthGovernor;  // null means no limit
+	
 
 	public GoogleDriveFacade(final Path oauthCredentialLocation, final String googleAppName)
 			throws GeneralSecurityException, IOException {
+		this(oauthCredentialLocation, googleAppName, GoogleNetHttpTransport.newTrustedTransport());
+	}
+	
+	
+	/**
+	 * @param oauthCredentialLocation Directory where OAuth tokens are stored
+	 * @param googleAppName Name reported to Google in the User-Agent
+	 * @param httpTransport Transport used for every call to Google (see {@link #newPooledTransport(int)})
+	 * @throws IOException If the OAuth data store cannot be opened
+	 */
+	public GoogleDriveFacade(final Path oauthCredentialLocation, final String googleAppName, final HttpTransport httpTransport)
+			throws IOException {
 		// Known bug in FileDataStoreFactory causes spurious Warning message on
 		// STDOUT
 		// https://github.com/google/google-http-java-client/issues/315
@@ -56,7 +77,43 @@ public class GoogleDriveFacade {
 		this.DATA_STORE_FACTORY = new FileDataStoreFactory(oauthCredentialLocation.toFile());
 		this.APPLICATION_NAME = googleAppName;
 
-		this.HTTP_TRANSPORT = GoogleNetHttpTransport.newTrustedTransport();
+		this.HTTP_TRANSPORT = httpTransport;
+	}
+	
+	
+	/**
+	 * Apache HttpClient based transport with a bounded pool of persistent (keep-alive) connections to Google.  Trusts
+	 * the same certificates as {@link GoogleNetHttpTransport#newTrustedTransport()}.  Idle pooled connections are
+	 * checked before reuse so one Google has already closed does not fail the request.
+	 * 
+	 * <p>
+	 * The default javanet transport already reuses keep-alive connections through the JDK's keep-alive cache when
+	 * downloads run one at a time (as they currently do) so this only helps once downloads run concurrently.  Size
+	 * maxConnections to the number of concurrent downloads.  Neither Java 8 nor this version of the Google HTTP
+	 * client support HTTP/2 so each connection carries a single request at a time.
+	 * </p>
+	 * 
+	 * @param maxConnections Maximum pooled connections (all calls go to the same Google host so this is also the per route limit)
+	 * @return Transport suitable for {@link #GoogleDriveFacade(Path, String, HttpTransport)}
+	 * @throws GeneralSecurityException If the Google certificate trust store cannot be loaded
+	 * @throws IOException If the Google certificate trust store cannot be loaded
+	 */
+	public static HttpTransport newPooledTransport(final int maxConnections) throws GeneralSecurityException, IOException {
+		if(maxConnections < 1) {
+			throw new IllegalArgumentException("maxConnections must be at least 1 but was " + maxConnections);
+		}
+		
+		final ApacheHttpTransport.Builder builder = new ApacheHttpTransport.Builder();
+		builder.trustCertificates(GoogleUtils.getCertificateTrustStore());
+		
+		final HttpParams params = builder.getHttpParams();
+		ConnManagerParams.setMaxTotalConnections(params, maxConnections);
+		ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(maxConnections));
+		// Pooled connections may have been closed by Google while idle so check before reuse instead of failing the request
+		HttpConnectionParams.setStaleCheckingEnabled(params, true);
+		HttpConnectionParams.setTcpNoDelay(params, true);
+		
+		return builder.build();
 	}
 	
 
@@ -87,6 +144,16 @@ public class GoogleDriveFacade {
 	}
 	
 
+	/**
+	 * Applies to downloads started after this call.
+	 * 
+	 * @param bandwidthGovernor Limits the rate downloads are written at, or null for no limit
+	 */
+	public void setBandwidthGovernor(final BandwidthGovernor bandwidthGovernor) {
+		this.bandwidthGovernor = bandwidthGovernor;
+	}
+	
+
 	/**
 	 * Thread safe.  May return cached build so it only happens once.
 	 * 
@@ -228,11 +295,9 @@ public class GoogleDriveFacade {
 			Files.createDirectories(destination.getParent());
 		}
 		
-		final OutputStream ostream = Files.newOutputStream(destination);
-		
-		this.getDriveService().files().export(file.getId(), conversionType).executeAndDownloadTo(ostream);
-		
-		ostream.close();
+		try(final OutputStream ostream = newDownloadOutputStream(destination)) {
+			this.getDriveService().files().export(file.getId(), conversionType).executeAndDownloadTo(ostream);
+		}
 		
 		destination.toFile().setWritable(false, false);
 		
@@ -250,11 +315,9 @@ public class GoogleDriveFacade {
 		}
 
 		
-		final OutputStream ostream = Files.newOutputStream(destination);
-		
-		this.getDriveService().files().get(file.getId()).executeMediaAndDownloadTo(ostream);
-		
-		ostream.close();
+		try(final OutputStream ostream = newDownloadOutputStream(destination)) {
+			this.getDriveService().files().get(file.getId()).executeMediaAndDownloadTo(ostream);
+		}
 		
 		destination.toFile().setWritable(false, false);
 		
@@ -265,6 +328,19 @@ public class GoogleDriveFacade {
 	}
 	
 	
+	/**
+	 * Callers must close the returned stream even if the download fails, otherwise it keeps holding a share of the
+	 * bandwidth governor's limit for the rest of the run.
+	 */
+	private OutputStream newDownloadOutputStream(final Path destination) throws IOException {
+		final OutputStream ostream = Files.newOutputStream(destination);
+		
+		final BandwidthGovernor governor = this.bandwidthGovernor;  // Read volatile once
+		
+		return (null == governor) ? ostream : governor.wrap(ostream);
+	}
+	
+	
 	public String getRootID() throws IOException {
 		// As per  https://developers.google.com/drive/v3/web/migration
 		// files.get with fileId=root and ?fields=id
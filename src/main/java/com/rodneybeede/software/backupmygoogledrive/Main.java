@@ -27,14 +27,18 @@ class Main {
 
 	// Google Client and Drive API specifics here
 	private static final String APPLICATION_NAME = "Backup My Google Drive";
+	private static final int DEFAULT_HTTP_MAX_CONNECTIONS = 4;  // Downloads are sequential so a small pool is plenty
     
 	
 	public static void main(final String[] args) throws IOException, InterruptedException {
-		if(null == args || args.length < 3 || args.length > 5) {
+		if(null == args || args.length < 3 || args.length > 9) {
 			System.err.println("Incorrect number of arguments");
-			System.out.println("Usage:\tjava -jar " + Main.class.getProtectionDomain().getCodeSource().getLocation().getFile() + " <account username> <account oauth file> <destination directory> [--google-api-filter=search parameters] [--post-parentid-tree-exclude=id]");
-			System.out.println("Usage:\tjava -jar " + Main.class.getProtectionDomain().getCodeSource().getLocation().getFile() + " <account username> <account oauth file> --tree-listing [--google-api-filter=search parameters] [--post-parentid-tree-exclude=id]");
+			System.out.println("Usage:\tjava -jar " + Main.class.getProtectionDomain().getCodeSource().getLocation().getFile() + " <account username> <account oauth file> <destination directory> [--google-api-filter=search parameters] [--post-parentid-tree-exclude=id] [--http-transport=javanet|apache] [--http-max-connections=n] [--bandwidth-schedule=schedule | --bandwidth-schedule-file=file]");
+			System.out.println("Usage:\tjava -jar " + Main.class.getProtectionDomain().getCodeSource().getLocation().getFile() + " <account username> <account oauth file> --tree-listing [--google-api-filter=search parameters] [--post-parentid-tree-exclude=id] [--http-transport=javanet|apache] [--http-max-connections=n] [--bandwidth-schedule=schedule | --bandwidth-schedule-file=file]");
 			System.out.println("\t\t" + "--post-parentid-tree-exclude=id  means if any file has a parent, grandparent, etc. with matching id then exclude it.  Useful for filtering out things like 'My Computer' and all files/folders underneath.  Must be processed after API call query due to API limits.  If possible use --google-api-filter");
+			System.out.println("\t\t" + "--http-transport=apache  uses a bounded pool of keep-alive connections (size set by --http-max-connections, default " + DEFAULT_HTTP_MAX_CONNECTIONS + ").  Default is javanet which already reuses connections when downloading one file at a time, so this only matters once downloads run concurrently.  --http-max-connections is only allowed with --http-transport=apache");
+			System.out.println("\t\t" + "--bandwidth-schedule=10@08:00-18:00,unlimited  limits downloads to 10 MB/s from 08:00 to 18:00 and no limit otherwise.  Limit is shared evenly by concurrent downloads");
+			System.out.println("\t\t" + "--bandwidth-schedule-file=file  reads the same schedule format from file (entries may be on separate lines) and re-reads it whenever the file changes so limits can be adjusted during a run.  Cannot be combined with --bandwidth-schedule");
 			System.out.println();
 			System.out.println("https://developers.google.com/drive/v3/web/search-parameters#fn2");
 			System.exit(255);
@@ -56,16 +60,75 @@ class Main {
 		}
 		final String googleApiFilter;
 		final String treeExcludeId;
+		final String httpTransportType;
+		final int httpMaxConnections;
+		final BandwidthGovernor bandwidthGovernor;
 		
 		{  // scoping
 			String apiArg = null;
 			String treeArg = null;
+			String transportArg = "javanet";
+			int maxConnectionsArg = DEFAULT_HTTP_MAX_CONNECTIONS;
+			boolean maxConnectionsGiven = false;
+			BandwidthGovernor governorArg = null;
 			
 			for(int i = 3; i < args.length; i++) {
 				if(args[i].startsWith("--google-api-filter=")) {
 					apiArg = args[i].substring("--google-api-filter=".length());
 				} else if(args[i].startsWith("--post-parentid-tree-exclude=")) {
 					treeArg = args[i].substring("--post-parentid-tree-exclude=".length());
+				} else if(args[i].startsWith("--http-transport=")) {
+					transportArg = args[i].substring("--http-transport=".length());
+					if(!"javanet".equals(transportArg) && !"apache".equals(transportArg)) {
+						log.error("Unknown HTTP transport:  " + transportArg);
+						System.exit(255);
+						return;
+					}
+				} else if(args[i].startsWith("--http-max-connections=")) {
+					try {
+						maxConnectionsArg = Integer.parseInt(args[i].substring("--http-max-connections=".length()));
+					} catch (final NumberFormatException e) {
+						maxConnectionsArg = 0;  // Caught by check below
+					}
+					if(maxConnectionsArg < 1) {
+						log.error("Illegal argument (must be a positive integer):  " + args[i]);
+						System.exit(255);
+						return;
+					}
+					maxConnectionsGiven = true;
+				} else if(args[i].startsWith("--bandwidth-schedule=")) {
+					if(null != governorArg) {
+						log.error("Only one of --bandwidth-schedule / --bandwidth-schedule-file may be given");
+						System.exit(255);
+						return;
+					}
+					final String schedule = args[i].substring("--bandwidth-schedule=".length());
+					try {
+						governorArg = new BandwidthGovernor(BandwidthSchedule.parse(schedule));
+					} catch (final IllegalArgumentException e) {
+						log.error("Invalid bandwidth schedule:  " + schedule, e);
+						System.exit(255);
+						return;
+					}
+				} else if(args[i].startsWith("--bandwidth-schedule-file=")) {
+					if(null != governorArg) {
+						log.error("Only one of --bandwidth-schedule / --bandwidth-schedule-file may be given");
+						System.exit(255);
+						return;
+					}
+					final String scheduleFile = args[i].substring("--bandwidth-schedule-file=".length());
+					try {
+						governorArg = BandwidthGovernor.fromFile(Paths.get(scheduleFile).normalize().toAbsolutePath());
+					} catch (final IOException e) {
+						log.error("Unable to read bandwidth schedule file:  " + scheduleFile, e);
+						System.exit(255);
+						return;
+					} catch (final IllegalArgumentException e) {
+						// Includes InvalidPathException
+						log.error("Invalid bandwidth schedule file:  " + scheduleFile, e);
+						System.exit(255);
+						return;
+					}
 				} else {
 					// Illegal argument
 					log.error("Illegal argument:  " + args[i]);
@@ -74,8 +137,18 @@ class Main {
 				}
 			}
 			
+			if(maxConnectionsGiven && !"apache".equals(transportArg)) {
+				// Only the pooled transport has a connection limit to set
+				log.error("--http-max-connections requires --http-transport=apache");
+				System.exit(255);
+				return;
+			}
+			
 			googleApiFilter = apiArg;  // May still be null
 			treeExcludeId = treeArg;   // May still be null
+			httpTransportType = transportArg;
+			httpMaxConnections = maxConnectionsArg;
+			bandwidthGovernor = governorArg;  // May still be null
 		}
 		
 		log.info("Google Account username:  " + googleUsername);
@@ -87,13 +160,20 @@ class Main {
 		}
 		log.info("Google API Filter:  " + googleApiFilter);  // Might be null which is okay
 		log.info("Tree Exclude ID:  " + treeExcludeId);  // Might be null which is okay
+		log.info("Bandwidth schedule:  " + (null == bandwidthGovernor ? "unlimited" : bandwidthGovernor.getSchedule()));
+		log.info("HTTP transport:  " + httpTransportType + ("apache".equals(httpTransportType) ? " with max connections of " + httpMaxConnections : ""));
 		
 
 		
 		// Connect to Google Drive
 		final GoogleDriveFacade google;
 		try {
-			google = new GoogleDriveFacade(oauthCredentialFile, Main.APPLICATION_NAME);
+			if("apache".equals(httpTransportType)) {
+				google = new GoogleDriveFacade(oauthCredentialFile, Main.APPLICATION_NAME, GoogleDriveFacade.newPooledTransport(httpMaxConnections));
+			} else {
+				google = new GoogleDriveFacade(oauthCredentialFile, Main.APPLICATION_NAME);
+			}
+			google.setBandwidthGovernor(bandwidthGovernor);
 			log.info("Authentication to Google was successful");
 		} catch (final GeneralSecurityException e) {
 			log.fatal("Unable to establish authenticated connection to Google", e);
@@ -0,0 +1,96 @@
+package com.rodneybeede.software.backupmygoogledrive;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces writes to the rate given by a {@link BandwidthGovernor}.  Created by {@link BandwidthGovernor#wrap(OutputStream)}.
+ *
+ * <p>
+ * Not thread safe (like most streams).  The first chunk is never delayed so small files go through immediately.
+ * </p>
+ */
+class ThrottledOutputStream extends FilterOutputStream {
+	// Rate is re-evaluated this often so schedule or stream count changes take effect quickly
+	private static final int CHUNK_SIZE = 16 * 1024;
+
+	private final BandwidthGovernor governor;
+
+	private long nextWriteNanos;  // Earliest System.nanoTime() the next chunk may be written
+	private boolean closed = false;
+
+
+	ThrottledOutputStream(final BandwidthGovernor governor, final OutputStream ostream) {
+		super(ostream);
+
+		this.governor = governor;
+		this.nextWriteNanos = System.nanoTime();
+
+		governor.streamOpened();
+	}
+
+
+	@Override
+	public void write(final int b) throws IOException {
+		throttle(1);
+
+		this.out.write(b);
+	}
+
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException {
+		// FilterOutputStream would otherwise write one byte at a time
+		for(int written = 0; written < len; ) {
+			final int chunk = Math.min(CHUNK_SIZE, len - written);
+
+			throttle(chunk);
+
+			this.out.write(b, off + written, chunk);
+
+			written += chunk;
+		}
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		if(!this.closed) {
+			this.closed = true;
+			this.governor.streamClosed();
+		}
+
+		super.close();
+	}
+
+
+	private void throttle(final int bytes) throws IOException {
+		final long bytesPerSecond = this.governor.getPerStreamBytesPerSecond();
+		final long now = System.nanoTime();
+
+		if(BandwidthSchedule.UNLIMITED == bytesPerSecond) {
+			this.nextWriteNanos = now;
+			return;
+		}
+
+		// Don't let time spent idle (e.g. waiting on Google) build up into a burst later
+		if(this.nextWriteNanos - now < 0) {
+			this.nextWriteNanos = now;
+		}
+
+		final long waitNanos = this.nextWriteNanos - now;
+		if(waitNanos > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(waitNanos);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for bandwidth");
+			}
+		}
+
+		this.nextWriteNanos += TimeUnit.SECONDS.toNanos(bytes) / bytesPerSecond;
+	}
+}